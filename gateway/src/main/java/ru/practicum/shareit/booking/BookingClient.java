@@ -4,14 +4,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDTO;
 import ru.practicum.shareit.booking.state.BookingStateRequest;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -19,41 +21,49 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createRequest(int userId, BookingRequestDTO booking) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(int userId, BookingRequestDTO booking) {
         return post("", userId, booking);
     }
 
-    public ResponseEntity<Object> postApproveBooking(int bookingId, int userId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> postApproveBooking(int bookingId, int userId, boolean approved) {
         return patch("/" + bookingId + "?approved={approved}", (long) userId,
                 Map.of("approved", approved), null);
     }
 
-    public ResponseEntity<Object> getBookingRequest(int bookingId, int userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingRequest(int bookingId, int userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingRequestForUser(int userId, BookingStateRequest state,
-                                                              int from, int size) {
-        return get("?state={state}&from={from}&size={size}", (long) userId,
-                Map.of("state", state.name(),
-                        "from", from,
-                        "size", size));
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingRequestForUser(int userId, BookingStateRequest state,
+                                                                                 int from, int size, String after) {
+        return getBookings("", userId, state, from, size, after);
     }
 
-    public ResponseEntity<Object> getAllBookingRequestForOwner(int userId, BookingStateRequest state,
-                                                               int from, int size) {
-        return get("/owner?state={state}&from={from}&size={size}", (long) userId,
-                Map.of("state", state.name(),
-                        "from", from,
-                        "size", size));
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingRequestForOwner(int userId, BookingStateRequest state,
+                                                                                  int from, int size, String after) {
+        return getBookings("/owner", userId, state, from, size, after);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> getBookings(String path, int userId, BookingStateRequest state,
+                                                                  int from, int size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name(),
+                "from", from,
+                "size", size));
+        String query = "?state={state}&from={from}&size={size}";
+        if (after != null) {
+            query += "&after={after}";
+            parameters.put("after", after);
+        }
+        return get(path + query, (long) userId, parameters);
     }
 }
\ No newline at end of file
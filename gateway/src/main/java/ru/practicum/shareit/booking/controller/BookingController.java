@@ -13,6 +13,8 @@ import ru.practicum.shareit.booking.state.BookingStateRequest;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
@@ -23,50 +25,48 @@ public class BookingController {
     private final BookingClient client;
 
     @PostMapping
-    public ResponseEntity<Object> postBookingRequest(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                     @RequestBody BookingRequestDTO bookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> postBookingRequest(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                        @RequestBody BookingRequestDTO bookingDto) {
         log.info("Post booking request: {}", bookingDto);
         return client.createRequest(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> postApproveBooking(@PathVariable int bookingId,
-                                                     @RequestHeader("X-Sharer-User-Id") int userId,
-                                                     @RequestParam boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> postApproveBooking(@PathVariable int bookingId,
+                                                                        @RequestHeader("X-Sharer-User-Id") int userId,
+                                                                        @RequestParam boolean approved) {
         log.info("Approve booking request: {}, {}", bookingId, approved);
         return client.postApproveBooking(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingReqeust(@PathVariable int bookingId,
-                                                    @RequestHeader("X-Sharer-User-Id") int userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingReqeust(@PathVariable int bookingId,
+                                                                       @RequestHeader("X-Sharer-User-Id") int userId) {
         log.info("Get booking: {}", bookingId);
         return client.getBookingRequest(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingRequestForUser(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                              @RequestParam(defaultValue = "ALL") String state,
-                                                              @PositiveOrZero @RequestParam(value = "from",
-                                                                      defaultValue = "0") int from,
-                                                              @Positive @RequestParam(value = "size",
-                                                                      defaultValue = "10")
-                                                              int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingRequestForUser(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") int from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
         BookingStateRequest stateRequest = BookingStateRequest.isValid(state);
-        log.info("Get booking for user: {}. from: {}; size: {}", userId, from, size);
-        return client.getAllBookingRequestForUser(userId, stateRequest, from, size);
+        log.info("Get booking for user: {}. from: {}; size: {}; after: {}", userId, from, size, after);
+        return client.getAllBookingRequestForUser(userId, stateRequest, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingRequestForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                               @RequestParam(defaultValue = "ALL") String state,
-                                                               @PositiveOrZero @RequestParam(value = "from",
-                                                                       defaultValue = "0") int from,
-                                                               @Positive @RequestParam(value = "size",
-                                                                       defaultValue = "10")
-                                                               int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllBookingRequestForOwner(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") int from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
         BookingStateRequest stateRequest = BookingStateRequest.isValid(state);
-        log.info("Get booking for owner: {}. from: {}; size: {}", userId, from, size);
-        return client.getAllBookingRequestForOwner(userId, stateRequest, from, size);
+        log.info("Get booking for owner: {}. from: {}; size: {}; after: {}", userId, from, size, after);
+        return client.getAllBookingRequestForOwner(userId, stateRequest, from, size, after);
     }
 }
\ No newline at end of file
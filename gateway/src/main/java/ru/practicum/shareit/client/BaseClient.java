@@ -1,82 +1,294 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BaseClient {
 
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            "keep-alive",
+            HttpHeaders.PROXY_AUTHENTICATE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHORIZATION.toLowerCase(),
+            HttpHeaders.TE.toLowerCase(),
+            HttpHeaders.TRAILER.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.UPGRADE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase());
+
+    private static final AtomicLong WRITE_GENERATION = new AtomicLong();
+
     protected final RestTemplate rest;
 
+    private boolean passThrough = true;
+
+    private boolean async = true;
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private BoundedHttpClient httpClient;
+
+    private ObjectMapper objectMapper;
+
+    private boolean coalesceGets = false;
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlightGets =
+            new ConcurrentHashMap<>();
+
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Value("${shareit-gateway.pass-through:true}")
+    public void setPassThrough(boolean passThrough) {
+        this.passThrough = passThrough;
+    }
+
+    @Value("${shareit-gateway.client.async:true}")
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    @Value("${shareit-gateway.client.read-timeout:30s}")
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    @Value("${shareit-gateway.coalesce-gets:false}")
+    public void setCoalesceGets(boolean coalesceGets) {
+        this.coalesceGets = coalesceGets;
+    }
+
+    @Autowired
+    public void setHttpClient(BoundedHttpClient asyncHttpClient, ObjectMapper objectMapper) {
+        this.httpClient = asyncHttpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected CompletableFuture<ResponseEntity<Object>> getShared(String path, Map<String, Object> parameters) {
+        if (coalesceGets) {
+            return coalesce(path, parameters);
+        }
+        return get(path, null, parameters);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (method == HttpMethod.GET) {
+            return send(method, path, userId, parameters, body, false);
+        }
+        try {
+            return send(method, path, userId, parameters, body, false)
+                    .whenComplete((response, e) -> WRITE_GENERATION.incrementAndGet());
+        } catch (RuntimeException e) {
+            WRITE_GENERATION.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> coalesce(String path, Map<String, Object> parameters) {
+        String key = rest.getUriTemplateHandler().expand(path, parameters) + "|" + WRITE_GENERATION.get();
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> inFlight = inFlightGets.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        try {
+            send(HttpMethod.GET, path, null, parameters, null, true).whenComplete((response, e) -> {
+                inFlightGets.remove(key, call);
+                if (e != null) {
+                    call.completeExceptionally(e);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightGets.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        return call;
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, boolean buffered) {
+        if (async && httpClient != null) {
+            return sendAsync(method, path, userId, parameters, body, buffered);
+        }
+        if (passThrough && !buffered) {
+            return CompletableFuture.completedFuture(streamThrough(method, expand(path, parameters), userId, body));
+        }
+        return CompletableFuture.completedFuture(exchange(method, path, userId, parameters, body));
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> sendAsync(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, boolean buffered) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(expand(path, parameters))
+                .timeout(readTimeout)
+                .method(method.name(), bodyPublisher(body));
+        defaultHeaders(userId).forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+        if (passThrough && !buffered) {
+            return httpClient.sendStreaming(request.build())
+                    .thenApply(response -> {
+                        HttpHeaders headers = new HttpHeaders();
+                        response.headers().map().forEach(headers::put);
+                        return ResponseEntity.status(response.statusCode())
+                                .headers(endToEndHeaders(headers))
+                                .body(new InputStreamResource(response.body()));
+                    });
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    HttpStatus status = HttpStatus.valueOf(response.statusCode());
+                    HttpHeaders headers = new HttpHeaders();
+                    response.headers().map().forEach(headers::put);
+                    if (!passThrough) {
+                        return mapBody(status, headers, response.body());
+                    }
+                    return ResponseEntity.status(status)
+                            .headers(endToEndHeaders(headers))
+                            .body(response.body());
+                });
+    }
+
+    private ResponseEntity<Object> mapBody(HttpStatus status, HttpHeaders headers, byte[] body) {
+        if (!status.is2xxSuccessful()) {
+            return ResponseEntity.status(status).body(body);
+        }
+        if (body.length == 0) {
+            return ResponseEntity.status(status).headers(endToEndHeaders(headers)).build();
+        }
+        try {
+            return ResponseEntity.status(status)
+                    .headers(endToEndHeaders(headers))
+                    .body(objectMapper.readValue(body, Object.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> HttpRequest.BodyPublisher bodyPublisher(@Nullable T body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> ResponseEntity<Object> streamThrough(HttpMethod method, URI uri, Long userId, @Nullable T body) {
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            if (body != null) {
+                objectMapper.writeValue(request.getBody(), body);
+            }
+            response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(endToEndHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(new UpstreamBody(response)));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("Ошибка обращения к серверу: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (passThrough) {
+            return passThrough(method, path, userId, parameters, body);
+        }
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
@@ -92,6 +304,52 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> ResponseEntity<Object> passThrough(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(endToEndHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        }
+        return ResponseEntity.status(shareitServerResponse.getStatusCode())
+                .headers(endToEndHeaders(shareitServerResponse.getHeaders()))
+                .body(shareitServerResponse.getBody());
+    }
+
+    private static class UpstreamBody extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        private UpstreamBody(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+
+    private static HttpHeaders endToEndHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                    result.put(name, values);
+                }
+            });
+        }
+        return result;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class BoundedHttpClient {
+
+    private final HttpClient httpClient;
+    private final Semaphore permits;
+
+    public BoundedHttpClient(HttpClient httpClient, int maxConcurrentRequests) {
+        this.httpClient = httpClient;
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                          HttpResponse.BodyHandler<T> bodyHandler) {
+        if (!permits.tryAcquire()) {
+            return rejected();
+        }
+        Permit permit = new Permit();
+        return send(request, bodyHandler, permit)
+                .whenComplete((response, e) -> permit.release());
+    }
+
+    public CompletableFuture<HttpResponse<InputStream>> sendStreaming(HttpRequest request) {
+        if (!permits.tryAcquire()) {
+            return rejected();
+        }
+        Permit permit = new Permit();
+        HttpResponse.BodyHandler<InputStream> bodyHandler = responseInfo -> HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofInputStream(), body -> new PermitBody(body, permit));
+        return send(request, bodyHandler, permit)
+                .whenComplete((response, e) -> {
+                    if (e != null) {
+                        permit.release();
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request,
+                                                       HttpResponse.BodyHandler<T> bodyHandler, Permit permit) {
+        try {
+            return httpClient.sendAsync(request, bodyHandler);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    private static <T> CompletableFuture<T> rejected() {
+        return CompletableFuture.failedFuture(
+                new ResourceAccessException("Превышено число одновременных запросов к серверу"));
+    }
+
+    private class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static class PermitBody extends FilterInputStream {
+        private final Permit permit;
+
+        private PermitBody(InputStream body, Permit permit) {
+            super(body);
+            this.permit = permit;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.config.GatewayThreads;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ClientConfig {
+
+    @Value("${shareit-gateway.client.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${shareit-gateway.client.max-connections-per-route:500}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${shareit-gateway.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${shareit-gateway.client.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${shareit-gateway.client.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${shareit-gateway.client.threads:4}")
+    private int threads;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAlive.toMillis())
+                .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setConnectionRequestTimeout((int) connectTimeout.toMillis())
+                        .setSocketTimeout((int) readTimeout.toMillis())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient pooledHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService httpClientExecutor(GatewayThreads gatewayThreads) {
+        return gatewayThreads.newExecutor(threads);
+    }
+
+    @Bean
+    public BoundedHttpClient asyncHttpClient(ExecutorService httpClientExecutor) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(httpClientExecutor)
+                .build();
+        return new BoundedHttpClient(httpClient, maxConnections);
+    }
+}
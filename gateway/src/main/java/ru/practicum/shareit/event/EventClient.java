@@ -0,0 +1,128 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.config.GatewayThreads;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+
+@Service
+public class EventClient {
+
+    private static final String API_PREFIX = "/events";
+
+    private final String serverUrl;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public EventClient(@Value("${shareit-server.url}") String serverUrl,
+                       @Value("${shareit-gateway.events-timeout:30m}") Duration timeout,
+                       GatewayThreads threads) {
+        this.serverUrl = serverUrl;
+        this.timeout = timeout;
+        this.executor = threads.newTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(int userId) {
+        CompletableFuture<ResponseEntity<ResponseBodyEmitter>> result = new CompletableFuture<>();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serverUrl + API_PREFIX))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+        httpClient.sendAsync(request, responseInfo -> {
+            if (responseInfo.statusCode() == HttpStatus.OK.value()) {
+                result.complete(ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter));
+                return HttpResponse.BodySubscribers.fromLineSubscriber(new LineForwarder(emitter));
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                    body -> {
+                        result.complete(ResponseEntity.status(responseInfo.statusCode())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(emitter));
+                        sendAndComplete(emitter, body);
+                        return null;
+                    });
+        }).whenComplete((response, e) -> {
+            if (e != null && !result.isDone()) {
+                result.complete(ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(emitter));
+                emitter.complete();
+            }
+        });
+        return result;
+    }
+
+    private static void sendAndComplete(ResponseBodyEmitter emitter, String body) {
+        try {
+            emitter.send(body, MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static class LineForwarder implements Flow.Subscriber<String> {
+        private final ResponseBodyEmitter emitter;
+        private Flow.Subscription subscription;
+
+        private LineForwarder(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(e -> subscription.cancel());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(String line) {
+            try {
+                emitter.send(line + "\n", MediaType.TEXT_EVENT_STREAM);
+                subscription.request(1);
+            } catch (IOException | IllegalStateException e) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            emitter.complete();
+        }
+
+        @Override
+        public void onComplete() {
+            emitter.complete();
+        }
+    }
+}
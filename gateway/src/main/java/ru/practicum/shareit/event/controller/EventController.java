@@ -0,0 +1,29 @@
+package ru.practicum.shareit.event.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.event.EventClient;
+
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Slf4j
+public class EventController {
+
+    private final EventClient client;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> subscribe(
+            @RequestHeader("X-Sharer-User-Id") int userId) {
+        log.info("Subscribe to events, user: {}", userId);
+        return client.subscribe(userId);
+    }
+}
@@ -4,14 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDTO;
 import ru.practicum.shareit.item.dto.ItemRequestDTO;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,45 +22,70 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getItem(int userId, int itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(int userId, int itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItems(int ownerId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(int ownerId, int from, int size) {
         return get("?from={from}&size={size}", (long) ownerId, Map.of("from", from,
                 "size", size));
     }
 
-    public ResponseEntity<Object> createItem(int ownerId, ItemRequestDTO item) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(int ownerId, ItemRequestDTO item) {
         return post("", ownerId, item);
     }
 
-    public ResponseEntity<Object> updateItem(int ownerId, int id, ItemRequestDTO item) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(int ownerId, int id, ItemRequestDTO item) {
         return patch("/" + id, ownerId, item);
     }
 
-    public ResponseEntity<Object> deleteItem(int ownerId, int id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(int ownerId, int id) {
         return delete("/" + id, ownerId);
     }
 
-    public ResponseEntity<Object> searchItem(String text, int from, int size) {
-        return get("/search?text={text}&from={from}&size={size}", null, Map.of(
+    public CompletableFuture<ResponseEntity<Object>> searchItem(String text, LocalDateTime start, LocalDateTime end,
+                                                               int from, int size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         ));
+        String path = "/search?text={text}&from={from}&size={size}";
+        if (start != null && end != null) {
+            path += "&start={start}&end={end}";
+            parameters.put("start", start);
+            parameters.put("end", end);
+        }
+        return getShared(path, parameters);
     }
 
-    public ResponseEntity<Object> createComment(int userId, int itemId, CommentRequestDTO commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> suggestNames(String prefix, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("prefix", prefix);
+        parameters.put("size", size);
+        return getShared("/suggest?prefix={prefix}&size={size}", parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(int itemId, LocalDateTime from, LocalDateTime to,
+                                                                     boolean includeWaiting) {
+        return getShared("/" + itemId + "/availability?from={from}&to={to}&includeWaiting={includeWaiting}",
+                Map.of("from", from,
+                        "to", to,
+                        "includeWaiting", includeWaiting));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> createComment(int userId, int itemId,
+                                                                  CommentRequestDTO commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
\ No newline at end of file
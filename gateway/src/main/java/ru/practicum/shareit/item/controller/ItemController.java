@@ -2,14 +2,22 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentRequestDTO;
 import ru.practicum.shareit.item.dto.ItemRequestDTO;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -20,50 +28,90 @@ public class ItemController {
     private final ItemClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader("X-Sharer-User-Id") int ownerId,
-                                           @RequestParam(value = "from", defaultValue = "0") int from,
-                                           @RequestParam(value = "size", defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getItems(
+            @RequestHeader("X-Sharer-User-Id") int ownerId,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
         log.info("Get items for user: {}", ownerId);
         return client.getItems(ownerId, from, size);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int id) {
+    public CompletableFuture<ResponseEntity<Object>> getItem(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @PathVariable int id) {
         log.info("Get item, id: {}", id);
         return client.getItem(userId, id);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemForSearch(@RequestParam(required = false) String text,
-                                                   @RequestParam(value = "from", defaultValue = "0") int from,
-                                                   @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("Search item for: {}", text);
-        return client.searchItem(text, from, size);
+    public CompletableFuture<ResponseEntity<Object>> getItemForSearch(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime start,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime end,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new ValidationException("Неправильно указан период!");
+        }
+        log.info("Search item for: {}. start: {}; end: {}", text, start, end);
+        return client.searchItem(text, start, end, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public CompletableFuture<ResponseEntity<Object>> suggestNames(
+            @RequestParam(required = false) String prefix,
+            @Positive @Max(1000) @RequestParam(value = "size", defaultValue = "10") int size) {
+        log.info("Suggest item names for: {}", prefix);
+        return client.suggestNames(prefix, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(
+            @PathVariable int id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Неправильно указан период!");
+        }
+        log.info("Get availability for item: {}. from: {}; to: {}", id, from, to);
+        return client.getAvailability(id, from, to, includeWaiting);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postItem(@RequestHeader("X-Sharer-User-Id") int ownerId,
-                                           @RequestBody ItemRequestDTO itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> postItem(@RequestHeader("X-Sharer-User-Id") int ownerId,
+                                                              @RequestBody ItemRequestDTO itemDto) {
         log.info("Post item: {}", itemDto);
         return client.createItem(ownerId, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId,
-                                              @RequestBody CommentRequestDTO commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> postComment(
+            @RequestHeader("X-Sharer-User-Id") int userId, @PathVariable int itemId,
+            @RequestBody CommentRequestDTO commentDto) {
         log.info("Post comment: {}", commentDto);
         return client.createComment(userId, itemId, commentDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patchItem(@RequestHeader("X-Sharer-User-Id") int ownerId, @PathVariable int id,
-                                            @RequestBody ItemRequestDTO itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> patchItem(
+            @RequestHeader("X-Sharer-User-Id") int ownerId, @PathVariable int id,
+            @RequestBody ItemRequestDTO itemDto) {
         log.info("Patch item: {}", id);
         return client.updateItem(ownerId, id, itemDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@RequestHeader("X-Sharer-User-Id") int ownerId, @PathVariable int id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(
+            @RequestHeader("X-Sharer-User-Id") int ownerId,
+            @PathVariable int id) {
         log.info("Delete item: {}", id);
         return client.deleteItem(ownerId, id);
     }
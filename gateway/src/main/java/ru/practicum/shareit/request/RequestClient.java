@@ -4,41 +4,52 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.RequestDTO;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> createRequest(Integer userId, RequestDTO requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(Integer userId, RequestDTO requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getRequest(Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequest(Integer userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequest(Integer userId, Integer from, Integer size) {
-        return get("/all", (long) userId, Map.of("from", from, "size", size));
+    public CompletableFuture<ResponseEntity<Object>> getAllRequest(Integer userId, Integer from, Integer size,
+                                                                  String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("from", from,
+                "size", size));
+        String query = "?from={from}&size={size}";
+        if (after != null) {
+            query += "&after={after}";
+            parameters.put("after", after);
+        }
+        return get("/all" + query, (long) userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Integer requestId, Integer userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Integer requestId, Integer userId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
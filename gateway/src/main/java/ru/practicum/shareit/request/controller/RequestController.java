@@ -12,6 +12,8 @@ import ru.practicum.shareit.request.dto.RequestDTO;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/requests")
@@ -22,30 +24,31 @@ public class RequestController {
     private final RequestClient client;
 
     @PostMapping
-    public ResponseEntity<Object> postRequest(@RequestHeader("X-Sharer-User-Id") int userId,
-                                              @RequestBody RequestDTO request) {
+    public CompletableFuture<ResponseEntity<Object>> postRequest(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                 @RequestBody RequestDTO request) {
         log.info("Post request: {}", request);
         return client.createRequest(userId, request);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequest(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequest(@RequestHeader("X-Sharer-User-Id") int userId) {
         log.info("Get request for user: {}", userId);
         return client.getRequest(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequest(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @PositiveOrZero @RequestParam(value = "from",
-                                                        defaultValue = "0") int from,
-                                                @Positive @RequestParam(value = "size", defaultValue = "10") int size) {
-        log.info("Get all request for user: {}", userId);
-        return client.getAllRequest(userId, from, size);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequest(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") int from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("Get all request for user: {}, after: {}", userId, after);
+        return client.getAllRequest(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable Integer requestId,
-                                                 @RequestHeader("X-Sharer-User-Id") int userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(@PathVariable Integer requestId,
+                                                                    @RequestHeader("X-Sharer-User-Id") int userId) {
         log.info("Get request: {}", requestId);
         return client.getRequestById(requestId, userId);
     }
@@ -5,43 +5,92 @@ import ru.practicum.shareit.user.dto.UserRequestDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getUser(int userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(int userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public CompletableFuture<ResponseEntity<Object>> getUsers(Integer from, Integer size, Integer after) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (from != null) {
+            query.add("from={from}");
+            parameters.put("from", from);
+        }
+        if (size != null) {
+            query.add("size={size}");
+            parameters.put("size", size);
+        }
+        if (after != null) {
+            query.add("after={after}");
+            parameters.put("after", after);
+        }
+        return get(query.toString(), null, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportUsers() throws IOException {
+        ClientHttpResponse response = rest.getRequestFactory()
+                .createRequest(rest.getUriTemplateHandler().expand("/export"), HttpMethod.GET)
+                .execute();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            try (response) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                return ResponseEntity.status(response.getRawStatusCode())
+                        .contentType(Objects.requireNonNullElse(response.getHeaders().getContentType(),
+                                MediaType.APPLICATION_JSON))
+                        .body(out -> out.write(body));
+            }
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try (response) {
+                        StreamUtils.copy(response.getBody(), out);
+                    }
+                });
     }
 
-    public ResponseEntity<Object> createUser(UserRequestDTO user) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserRequestDTO user) {
         return post("", user);
     }
 
-    public ResponseEntity<Object> updateUser(int userId, UserRequestDTO user) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(int userId, UserRequestDTO user) {
         return patch("/" + userId, user);
     }
 
-    public ResponseEntity<Object> deleteUser(int userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(int userId) {
         return delete("/" + userId);
     }
 }
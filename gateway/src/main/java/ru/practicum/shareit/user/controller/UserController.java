@@ -6,10 +6,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserRequestDTO;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping("/users")
@@ -20,31 +27,40 @@ public class UserController {
     private final UserClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        log.info("Get all users");
-        return client.getUsers();
+    public CompletableFuture<ResponseEntity<Object>> getUsers(
+            @PositiveOrZero @RequestParam(value = "from", required = false) Integer from,
+            @Positive @Max(1000) @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "after", required = false) Integer after) {
+        log.info("Get users, from: {}, size: {}, after: {}", from, size, after);
+        return client.getUsers(from, size, after);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() throws IOException {
+        log.info("Export users");
+        return client.exportUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable int id) {
+    public CompletableFuture<ResponseEntity<Object>> getUser(@PathVariable int id) {
         log.info("Get user {}", id);
         return client.getUser(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postUser(@Valid @RequestBody UserRequestDTO user) {
+    public CompletableFuture<ResponseEntity<Object>> postUser(@Valid @RequestBody UserRequestDTO user) {
         log.info("Post user: {}", user);
         return client.createUser(user);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patchUser(@PathVariable int id, @RequestBody UserRequestDTO user) {
+    public CompletableFuture<ResponseEntity<Object>> patchUser(@PathVariable int id, @RequestBody UserRequestDTO user) {
         log.info("Patch user: {}", id);
         return client.updateUser(id, user);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable int id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable int id) {
         log.info("Delete user: {}", id);
         return client.deleteUser(id);
     }
@@ -2,12 +2,14 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.exception.error.ErrorResponse;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
@@ -38,21 +40,32 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingFullDto> getAllBookingRequestForUser(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                            @RequestParam(defaultValue = "ALL") String state,
-                                                            @RequestParam(value = "from", defaultValue = "0") int from,
-                                                            @RequestParam(value = "size", defaultValue = "10")
-                                                            int size) {
-        return bookingService.getAllBookingRequestForUser(userId, state, from, size);
+    public ResponseEntity<List<BookingFullDto>> getAllBookingRequestForUser(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
+        return withNextCursor(bookingService.getAllBookingRequestForUser(userId, state, from, size, after), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingFullDto> getAllBookingRequestForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                             @RequestParam(defaultValue = "ALL") String state,
-                                                             @RequestParam(value = "from", defaultValue = "0") int from,
-                                                             @RequestParam(value = "size", defaultValue = "10")
-                                                             int size) {
-        return bookingService.getAllBookingRequestForOwner(userId, state, from, size);
+    public ResponseEntity<List<BookingFullDto>> getAllBookingRequestForOwner(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
+        return withNextCursor(bookingService.getAllBookingRequestForOwner(userId, state, from, size, after), size);
+    }
+
+    private ResponseEntity<List<BookingFullDto>> withNextCursor(List<BookingFullDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() >= size) {
+            BookingFullDto last = bookings.get(bookings.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
 
     @ExceptionHandler
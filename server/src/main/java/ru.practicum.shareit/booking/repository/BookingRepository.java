@@ -4,12 +4,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
@@ -17,22 +22,27 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
 
     Page<Booking> findByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
 
-    Page<Booking> findByItemIn(List<Item> item, Pageable pageable);
+    Page<Booking> findByItemOwnerId(Integer ownerId, Pageable pageable);
 
-    Page<Booking> findByItemInAndStatus(List<Item> item, BookingStatus status, Pageable pageable);
+    Page<Booking> findByItemOwnerIdAndStatus(Integer ownerId, BookingStatus status, Pageable pageable);
 
-    Booking findFirstByItemAndStatusAndStartAfterOrderByStart(Item item, BookingStatus status, LocalDateTime now);
+    Page<Booking> findByBookerIdAndStatusInAndStartAfter(Integer bookerId, Collection<BookingStatus> statuses,
+                                                         LocalDateTime now, Pageable pageable);
 
-    Booking findFirstByItemAndStatusAndStartBeforeOrderByStartDesc(Item item, BookingStatus status, LocalDateTime now);
+    Page<Booking> findByItemOwnerIdAndStatusInAndStartAfter(Integer ownerId, Collection<BookingStatus> statuses,
+                                                            LocalDateTime now, Pageable pageable);
+
+    boolean existsByItemIdAndStatusInAndEndAfterAndStartBefore(Integer itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime start, LocalDateTime end);
 
     Booking findFirstByItemAndBookerAndStatusAndEndBefore(Item item, User booker, BookingStatus approved,
                                                           LocalDateTime now);
 
-    Page<Booking> findAllByItemInAndStartBeforeAndEndAfterOrderByStartDesc(
-            List<Item> items, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    Page<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+            Integer ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findAllByItemInAndStatusAndEndBeforeOrderByStartDesc(
-            List<Item> items, BookingStatus approved, LocalDateTime now, Pageable pageable);
+    Page<Booking> findAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(
+            Integer ownerId, BookingStatus approved, LocalDateTime now, Pageable pageable);
 
     @Query("select b " +
             "from Booking as b " +
@@ -49,4 +59,141 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             "and b.end < current_timestamp " +
             "order by b.start desc")
     Page<Booking> getBookingByUserIdAndFinishAfterNow(Integer userId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, b.booker.id, " +
+            "b.item.id, b.item.name) " +
+            "from Booking as b " +
+            "where b.item.id in :itemIds " +
+            "and b.status = :status " +
+            "and (b.start = (select max(l.start) from Booking as l " +
+            "where l.item = b.item and l.status = :status and l.start < :now) " +
+            "or b.start = (select min(n.start) from Booking as n " +
+            "where n.item = b.item and n.status = :status and n.start > :now)) " +
+            "order by b.id")
+    List<BookingDto> findLastAndNextByItemIds(@Param("itemIds") List<Integer> itemIds,
+                                              @Param("status") BookingStatus status,
+                                              @Param("now") LocalDateTime now);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdAfter(@Param("bookerId") Integer bookerId, @Param("start") LocalDateTime start,
+                                      @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId " +
+            "and b.status = :status " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByBookerIdAndStatusAfter(@Param("bookerId") Integer bookerId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId " +
+            "and b.start < current_timestamp and b.end > current_timestamp " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getCurrentByUserIdAfter(@Param("bookerId") Integer bookerId, @Param("start") LocalDateTime start,
+                                          @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId " +
+            "and b.end < current_timestamp " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getPastByUserIdAfter(@Param("bookerId") Integer bookerId, @Param("start") LocalDateTime start,
+                                       @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.booker.id = :bookerId " +
+            "and b.status in :statuses " +
+            "and b.start > :now " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getFutureByUserIdAfter(@Param("bookerId") Integer bookerId,
+                                         @Param("statuses") Collection<BookingStatus> statuses,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByItemOwnerIdAfter(@Param("ownerId") Integer ownerId, @Param("start") LocalDateTime start,
+                                         @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.status = :status " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByItemOwnerIdAndStatusAfter(@Param("ownerId") Integer ownerId,
+                                                  @Param("status") BookingStatus status,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.start < :now and b.end > :now " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getCurrentByItemOwnerIdAfter(@Param("ownerId") Integer ownerId, @Param("now") LocalDateTime now,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.status = :status " +
+            "and b.end < :now " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getPastByItemOwnerIdAfter(@Param("ownerId") Integer ownerId,
+                                            @Param("status") BookingStatus status,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("id") Integer id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.status in :statuses " +
+            "and b.start > :now " +
+            "and (b.start < :start or (b.start = :start and b.id < :id)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> getFutureByItemOwnerIdAfter(@Param("ownerId") Integer ownerId,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("id") Integer id, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.IntervalDto(b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = :itemId " +
+            "and b.status in :statuses " +
+            "and b.end > :from and b.start < :to " +
+            "order by b.start")
+    List<IntervalDto> findIntervalsByItemId(@Param("itemId") Integer itemId,
+                                            @Param("statuses") Collection<BookingStatus> statuses,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemCountDto(b.item.id, count(b)) " +
+            "from Booking as b " +
+            "where b.status = :status and b.start > :since " +
+            "group by b.item.id")
+    List<ItemCountDto> countByItemAndStatusStartedAfter(@Param("status") BookingStatus status,
+                                                        @Param("since") LocalDateTime since);
+}
@@ -13,7 +13,9 @@ public interface BookingService {
 
     public BookingFullDto getBookingRequest(int bookingId, int userId);
 
-    public List<BookingFullDto> getAllBookingRequestForUser(int userId, String state, int from, int size);
+    public List<BookingFullDto> getAllBookingRequestForUser(int userId, String state, int from, int size,
+                                                            String after);
 
-    public List<BookingFullDto> getAllBookingRequestForOwner(int userId, String state, int from, int size);
+    public List<BookingFullDto> getAllBookingRequestForOwner(int userId, String state, int from, int size,
+                                                             String after);
 }
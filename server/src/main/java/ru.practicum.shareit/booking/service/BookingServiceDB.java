@@ -11,33 +11,49 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.EventBroadcaster;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 
+import javax.persistence.EntityNotFoundException;
+import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceDB implements BookingService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
     private final BookingRepository repository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailCache itemCache;
+    private final EventBroadcaster eventBroadcaster;
 
+    @Transactional
     @Override
     public BookingFullDto createRequest(int userId, BookingDto booking) {
-        if (!itemRepository.getById(booking.getItemId()).getAvailable()) {
+        Item item = itemRepository.findByIdForUpdate(booking.getItemId()).orElseThrow(() ->
+                new EntityNotFoundException("Такой вещи нет"));
+        if (!item.getAvailable()) {
             throw new ValidationException("Вещь занята!");
         }
-        if (userRepository.findById(userId).isEmpty()) {
+        if (!userCache.exists(userId)) {
             throw new NullPointerException("Такого пользователя нет!");
         }
-        if (itemRepository.getById(booking.getItemId()).getOwner().getId() == userId) {
+        if (item.getOwner().getId() == userId) {
             throw new NullPointerException("Владелец не может забронировать свою вещь!");
         }
         if (booking.getEnd() == null || booking.getStart() == null
@@ -47,15 +63,21 @@ public class BookingServiceDB implements BookingService {
                 || booking.getStart().isBefore(LocalDateTime.now())) {
             throw new ValidationException("Неправильно указано время!");
         }
+        if (isBooked(item, List.of(BookingStatus.APPROVED), booking.getStart(), booking.getEnd())) {
+            throw new ValidationException("Вещь уже забронирована на это время!");
+        }
         Booking book = new Booking();
         book.setStart(booking.getStart());
         book.setEnd(booking.getEnd());
-        book.setItem(itemRepository.getById(booking.getItemId()));
-        book.setBooker(userRepository.getById(userId));
+        book.setItem(item);
+        book.setBooker(userCache.getReference(userId));
         book.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toBookingFullDto(repository.save(book));
+        Booking savedBooking = repository.save(book);
+        itemCache.evictBookings(item.getId());
+        return publishBooking(BookingMapper.toBookingFullDto(savedBooking), item.getOwner().getId(), userId);
     }
 
+    @Transactional
     @Override
     public BookingFullDto postApproveBooking(int bookingId, int userId, boolean approve) {
         if (repository.getById(bookingId).getItem().getOwner().getId() != userId) {
@@ -66,11 +88,20 @@ public class BookingServiceDB implements BookingService {
         }
         Booking book = repository.getById(bookingId);
         if (approve) {
+            Item item = itemRepository.findByIdForUpdate(book.getItem().getId()).orElseThrow(() ->
+                    new EntityNotFoundException("Такой вещи нет"));
+            if (isBooked(item, List.of(BookingStatus.APPROVED), book.getStart(), book.getEnd())) {
+                throw new ValidationException("Вещь уже забронирована на это время!");
+            }
             book.setStatus(BookingStatus.APPROVED);
+            searchEngine.bookingApproved(item.getId());
+            searchCache.invalidate(item.getName(), item.getDescription());
         } else {
             book.setStatus(BookingStatus.REJECTED);
         }
-        return BookingMapper.toBookingFullDto(repository.save(book));
+        itemCache.evictBookings(book.getItem().getId());
+        return publishBooking(BookingMapper.toBookingFullDto(repository.save(book)), userId,
+                book.getBooker().getId());
     }
 
     @Override
@@ -85,8 +116,9 @@ public class BookingServiceDB implements BookingService {
     }
 
     @Override
-    public List<BookingFullDto> getAllBookingRequestForUser(int userId, String state, int from, int size) {
-        if (userRepository.findById(userId).isEmpty()) {
+    public List<BookingFullDto> getAllBookingRequestForUser(int userId, String state, int from, int size,
+                                                            String after) {
+        if (!userCache.exists(userId)) {
             throw new NullPointerException("Такого пользователя нет");
         }
         BookingState bookState;
@@ -95,55 +127,47 @@ public class BookingServiceDB implements BookingService {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Unknown state: " + state);
         }
+        if (after != null) {
+            return toBookingFullDto(getUserBookingsAfter(userId, bookState, PageCursor.decode(after), size));
+        }
         List<BookingFullDto> bookingsDto = new ArrayList<>();
         List<Booking> bookings;
         switch (bookState) {
             case CURRENT:
-                bookings = repository.getCurrentByUserId(userId, getPage(from, size,
-                        Sort.by(Sort.Direction.ASC, "start"))).getContent();
+                bookings = repository.getCurrentByUserId(userId, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case PAST:
-                bookings = repository.getBookingByUserIdAndFinishAfterNow(userId, getPage(from, size,
-                        Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.getBookingByUserIdAndFinishAfterNow(userId, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case FUTURE:
-                List<Booking> bookingsApprove = repository.findByBookerAndStatus(userRepository.getById(userId),
-                        BookingStatus.APPROVED, getPage(from, size)).getContent();
-                List<Booking> bookingsWaiting = repository.findByBookerAndStatus(userRepository.getById(userId),
-                        BookingStatus.WAITING, getPage(from, size)).getContent();
-                for (Booking book : bookingsApprove) {
-                    bookingsDto.add(BookingMapper.toBookingFullDto(book));
-                }
-                for (Booking book : bookingsWaiting) {
+                bookings = repository.findByBookerIdAndStatusInAndStartAfter(userId, ACTIVE_STATUSES,
+                        LocalDateTime.now(), getPage(from, size, NEWEST_FIRST)).getContent();
+                for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
-                bookingsDto.sort(Comparator.comparing(BookingFullDto::getStart).reversed());
                 return bookingsDto;
             case WAITING:
-                bookings = repository.findByBookerAndStatus(userRepository.getById(userId),
-                        BookingStatus.WAITING, getPage(from, size,
-                                Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByBookerAndStatus(userCache.getReference(userId),
+                        BookingStatus.WAITING, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case REJECTED:
-                bookings = repository.findByBookerAndStatus(userRepository.getById(userId),
-                        BookingStatus.REJECTED, getPage(from, size,
-                                Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByBookerAndStatus(userCache.getReference(userId),
+                        BookingStatus.REJECTED, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case ALL:
-                bookings = repository.findByBooker(userRepository.getById(userId), getPage(from, size,
-                        Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByBooker(userCache.getReference(userId), getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
@@ -154,8 +178,9 @@ public class BookingServiceDB implements BookingService {
     }
 
     @Override
-    public List<BookingFullDto> getAllBookingRequestForOwner(int userId, String state, int from, int size) {
-        if (userRepository.findById(userId).isEmpty()) {
+    public List<BookingFullDto> getAllBookingRequestForOwner(int userId, String state, int from, int size,
+                                                             String after) {
+        if (!userCache.exists(userId)) {
             throw new NullPointerException("Такого пользователя нет");
         }
         BookingState bookState;
@@ -164,59 +189,49 @@ public class BookingServiceDB implements BookingService {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Unknown state: " + state);
         }
-        List<Item> ownerItems = itemRepository.findAllByOwnerOrderById(userRepository.getById(userId),
-                getPage(0, 10)).toList();
+        if (after != null) {
+            return toBookingFullDto(getOwnerBookingsAfter(userId, bookState, PageCursor.decode(after), size));
+        }
         List<BookingFullDto> bookingsDto = new ArrayList<>();
         List<Booking> bookings;
         switch (bookState) {
             case CURRENT:
-                bookings = repository.findAllByItemInAndStartBeforeAndEndAfterOrderByStartDesc(
-                        ownerItems, LocalDateTime.now(), LocalDateTime.now(), getPage(from, size,
-                                Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                        userId, LocalDateTime.now(), LocalDateTime.now(), getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case PAST:
-                bookings = repository.findAllByItemInAndStatusAndEndBeforeOrderByStartDesc(ownerItems,
-                        BookingStatus.APPROVED, LocalDateTime.now(), getPage(from, size,
-                                Sort.by(Sort.Direction.ASC, "start"))).getContent();
+                bookings = repository.findAllByItemOwnerIdAndStatusAndEndBeforeOrderByStartDesc(userId,
+                        BookingStatus.APPROVED, LocalDateTime.now(), getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case FUTURE:
-                List<Booking> bookingsApprove = repository.findByItemInAndStatus(ownerItems,
-                        BookingStatus.APPROVED, getPage(from, size)).getContent();
-                List<Booking> bookingsWaiting = repository.findByItemInAndStatus(ownerItems,
-                        BookingStatus.WAITING, getPage(from, size)).getContent();
-                for (Booking book : bookingsApprove) {
-                    bookingsDto.add(BookingMapper.toBookingFullDto(book));
-                }
-                for (Booking book : bookingsWaiting) {
+                bookings = repository.findByItemOwnerIdAndStatusInAndStartAfter(userId, ACTIVE_STATUSES,
+                        LocalDateTime.now(), getPage(from, size, NEWEST_FIRST)).getContent();
+                for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
-                bookingsDto.sort(Comparator.comparing(BookingFullDto::getStart).reversed());
                 return bookingsDto;
             case WAITING:
-                bookings = repository.findByItemInAndStatus(ownerItems,
-                        BookingStatus.WAITING, getPage(from, size,
-                                Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByItemOwnerIdAndStatus(userId,
+                        BookingStatus.WAITING, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case REJECTED:
-                bookings = repository.findByItemInAndStatus(ownerItems,
-                        BookingStatus.REJECTED, getPage(from, size,
-                                Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByItemOwnerIdAndStatus(userId,
+                        BookingStatus.REJECTED, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
                 return bookingsDto;
             case ALL:
-                bookings = repository.findByItemIn(ownerItems, PageRequest.of(from / size, size,
-                        Sort.by(Sort.Direction.DESC, "start"))).getContent();
+                bookings = repository.findByItemOwnerId(userId, getPage(from, size, NEWEST_FIRST)).getContent();
                 for (Booking book : bookings) {
                     bookingsDto.add(BookingMapper.toBookingFullDto(book));
                 }
@@ -226,11 +241,72 @@ public class BookingServiceDB implements BookingService {
         }
     }
 
-    private PageRequest getPage(int from, int size, Sort sort) {
-        return PageRequest.of(from / size, size, sort);
+    private List<Booking> getUserBookingsAfter(int userId, BookingState state, PageCursor cursor, int size) {
+        LocalDateTime start = cursor.getTimestamp();
+        Integer id = cursor.getId();
+        PageRequest page = PageRequest.of(0, size);
+        switch (state) {
+            case CURRENT:
+                return repository.getCurrentByUserIdAfter(userId, start, id, page);
+            case PAST:
+                return repository.getPastByUserIdAfter(userId, start, id, page);
+            case FUTURE:
+                return repository.getFutureByUserIdAfter(userId, ACTIVE_STATUSES, LocalDateTime.now(),
+                        start, id, page);
+            case WAITING:
+                return repository.findByBookerIdAndStatusAfter(userId, BookingStatus.WAITING, start, id, page);
+            case REJECTED:
+                return repository.findByBookerIdAndStatusAfter(userId, BookingStatus.REJECTED, start, id, page);
+            case ALL:
+                return repository.findByBookerIdAfter(userId, start, id, page);
+            default:
+                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
     }
 
-    private PageRequest getPage(int from, int size) {
-        return PageRequest.of(from / size, size);
+    private List<Booking> getOwnerBookingsAfter(int userId, BookingState state, PageCursor cursor, int size) {
+        LocalDateTime start = cursor.getTimestamp();
+        Integer id = cursor.getId();
+        PageRequest page = PageRequest.of(0, size);
+        switch (state) {
+            case CURRENT:
+                return repository.getCurrentByItemOwnerIdAfter(userId, LocalDateTime.now(), start, id, page);
+            case PAST:
+                return repository.getPastByItemOwnerIdAfter(userId, BookingStatus.APPROVED, LocalDateTime.now(),
+                        start, id, page);
+            case FUTURE:
+                return repository.getFutureByItemOwnerIdAfter(userId, ACTIVE_STATUSES, LocalDateTime.now(),
+                        start, id, page);
+            case WAITING:
+                return repository.findByItemOwnerIdAndStatusAfter(userId, BookingStatus.WAITING, start, id, page);
+            case REJECTED:
+                return repository.findByItemOwnerIdAndStatusAfter(userId, BookingStatus.REJECTED, start, id, page);
+            case ALL:
+                return repository.findByItemOwnerIdAfter(userId, start, id, page);
+            default:
+                throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
+    private BookingFullDto publishBooking(BookingFullDto booking, int ownerId, int bookerId) {
+        eventBroadcaster.publish(ownerId, EventBroadcaster.BOOKING_EVENT, booking);
+        eventBroadcaster.publish(bookerId, EventBroadcaster.BOOKING_EVENT, booking);
+        return booking;
+    }
+
+    private boolean isBooked(Item item, List<BookingStatus> statuses, LocalDateTime start, LocalDateTime end) {
+        return repository.existsByItemIdAndStatusInAndEndAfterAndStartBefore(item.getId(), statuses, start, end);
+    }
+
+    private List<BookingFullDto> toBookingFullDto(List<Booking> bookings) {
+        List<BookingFullDto> bookingsDto = new ArrayList<>();
+        for (Booking book : bookings) {
+            bookingsDto.add(BookingMapper.toBookingFullDto(book));
+        }
+        return bookingsDto;
+    }
+
+    private PageRequest getPage(int from, int size, Sort sort) {
+        return PageRequest.of(from / size, size, sort);
     }
 }
\ No newline at end of file
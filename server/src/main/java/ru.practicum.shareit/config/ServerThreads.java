@@ -0,0 +1,67 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+@Slf4j
+@Component
+public class ServerThreads {
+
+    private final ThreadFactory virtualThreadFactory;
+    private final Method newThreadPerTaskExecutor;
+
+    public ServerThreads(@Value("${shareit.virtual-threads:false}") boolean virtualThreads) {
+        ThreadFactory factory = null;
+        Method perTaskExecutor = null;
+        if (virtualThreads) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                        .getMethod("factory")
+                        .invoke(builder);
+                perTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                log.info("Using virtual threads");
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                log.warn("Virtual threads are not available on Java {}, using platform threads",
+                        System.getProperty("java.version"));
+                factory = null;
+                perTaskExecutor = null;
+            }
+        }
+        this.virtualThreadFactory = factory;
+        this.newThreadPerTaskExecutor = perTaskExecutor;
+    }
+
+    public boolean isVirtual() {
+        return virtualThreadFactory != null;
+    }
+
+    public ExecutorService newTaskExecutor() {
+        return isVirtual() ? newVirtualThreadPerTaskExecutor() : Executors.newCachedThreadPool();
+    }
+
+    public ExecutorService newExecutor(int platformThreads) {
+        return isVirtual() ? newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    public ScheduledExecutorService newScheduler() {
+        return isVirtual()
+                ? Executors.newSingleThreadScheduledExecutor(virtualThreadFactory)
+                : Executors.newSingleThreadScheduledExecutor();
+    }
+
+    private ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, virtualThreadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.config.ServerThreads;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class EventBroadcaster {
+
+    public static final String BOOKING_EVENT = "booking";
+    public static final String REQUEST_ITEM_EVENT = "request-item";
+
+    private final Duration timeout;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeat;
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public EventBroadcaster(@Value("${shareit.events.timeout:30m}") Duration timeout,
+                            @Value("${shareit.events.heartbeat:15s}") Duration heartbeatPeriod,
+                            @Value("${shareit.events.max-pending:16}") int maxPending,
+                            @Value("${shareit.events.send-timeout:10s}") Duration sendTimeout,
+                            ServerThreads threads) {
+        this.timeout = timeout;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.executor = threads.newTaskExecutor();
+        this.heartbeat = threads.newScheduler();
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatPeriod.toMillis(),
+                heartbeatPeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(int userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeout.toMillis()));
+        subscribers.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.emitter.onCompletion(() -> closed(subscriber));
+        subscriber.emitter.onTimeout(() -> closed(subscriber));
+        subscriber.emitter.onError(e -> closed(subscriber));
+        enqueue(subscriber, SseEmitter.event().comment("connected"));
+        return subscriber.emitter;
+    }
+
+    public void publish(int userId, String name, Object data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(userId, name, data);
+                }
+            });
+        } else {
+            deliver(userId, name, data);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        executor.shutdownNow();
+        subscribers.values().forEach(userSubscribers ->
+                userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void deliver(int userId, String name, Object data) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            enqueue(subscriber, SseEmitter.event().name(name).data(data));
+        }
+    }
+
+    private void sendHeartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > sendTimeoutNanos) {
+                drop(subscriber, "send timed out");
+            } else {
+                enqueue(subscriber, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (subscriber.pending.incrementAndGet() > maxPending) {
+            subscriber.pending.decrementAndGet();
+            drop(subscriber, "too many pending events");
+            return;
+        }
+        subscriber.queue.add(event);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.dropped && (event = subscriber.queue.poll()) != null) {
+                subscriber.pending.decrementAndGet();
+                send(subscriber, event);
+            }
+            if (subscriber.dropped && !subscriber.completed) {
+                subscriber.completed = true;
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.completed && (subscriber.dropped || !subscriber.queue.isEmpty())) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.sendingSince = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, e.getMessage());
+        } finally {
+            subscriber.sendingSince = 0;
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscriber.dropped) {
+            return;
+        }
+        subscriber.dropped = true;
+        log.debug("Dropping event stream of user {}: {}", subscriber.userId, reason);
+        remove(subscriber);
+        schedule(subscriber);
+    }
+
+    private void closed(Subscriber subscriber) {
+        subscriber.dropped = true;
+        subscriber.completed = true;
+        remove(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (key, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static class Subscriber {
+        private final int userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendingSince;
+        private volatile boolean dropped;
+        private volatile boolean completed;
+
+        private Subscriber(int userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.event.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.EventBroadcaster;
+import ru.practicum.shareit.exception.error.ErrorResponse;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/events")
+public class EventController {
+    private final EventBroadcaster broadcaster;
+    private final UserExistenceCache userCache;
+
+    @GetMapping
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") int userId) {
+        if (!userCache.exists(userId)) {
+            throw new NullPointerException("Такого пользователя нет");
+        }
+        return broadcaster.subscribe(userId);
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse nullExp(final NullPointerException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RequestItemEventDto {
+    private Integer requestId;
+    private ItemDto item;
+    private boolean suggested;
+}
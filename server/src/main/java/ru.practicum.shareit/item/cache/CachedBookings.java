@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CachedBookings {
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+}
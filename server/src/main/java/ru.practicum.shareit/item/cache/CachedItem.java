@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CachedItem {
+    private int ownerId;
+    private ItemDto item;
+}
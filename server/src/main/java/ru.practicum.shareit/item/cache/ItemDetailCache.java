@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class ItemDetailCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Map<Integer, Entry<CachedItem>> items;
+    private final Map<Integer, Entry<CachedBookings>> bookings;
+    private long version;
+
+    public ItemDetailCache(@Value("${shareit.item.cache-size:1000}") int maxSize,
+                           @Value("${shareit.item.cache-ttl:10m}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.items = lruMap(maxSize);
+        this.bookings = lruMap(maxSize);
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized CachedItem getItem(int itemId) {
+        CachedItem cached = get(items, itemId);
+        return cached == null ? null : new CachedItem(cached.getOwnerId(), copy(cached.getItem()));
+    }
+
+    public synchronized void putItem(int itemId, CachedItem cached, long readVersion) {
+        if (maxSize > 0 && readVersion == version) {
+            items.put(itemId, new Entry<>(new CachedItem(cached.getOwnerId(), copy(cached.getItem())),
+                    LocalDateTime.now().plus(ttl)));
+        }
+    }
+
+    public synchronized CachedBookings getBookings(int itemId) {
+        return get(bookings, itemId);
+    }
+
+    public synchronized void putBookings(int itemId, CachedBookings cached, long readVersion) {
+        if (maxSize > 0 && readVersion == version) {
+            LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+            if (cached.getNextBooking() != null && cached.getNextBooking().getStart().isBefore(expiresAt)) {
+                expiresAt = cached.getNextBooking().getStart();
+            }
+            bookings.put(itemId, new Entry<>(cached, expiresAt));
+        }
+    }
+
+    public void evict(int itemId) {
+        onWriteAndCommit(() -> {
+            items.remove(itemId);
+            bookings.remove(itemId);
+        });
+    }
+
+    public void evictItem(int itemId) {
+        onWriteAndCommit(() -> items.remove(itemId));
+    }
+
+    public void evictBookings(int itemId) {
+        onWriteAndCommit(() -> bookings.remove(itemId));
+    }
+
+    private void onWriteAndCommit(Runnable eviction) {
+        Runnable versioned = () -> {
+            synchronized (this) {
+                version++;
+                eviction.run();
+            }
+        };
+        versioned.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versioned.run();
+                }
+            });
+        }
+    }
+
+    private <T> T get(Map<Integer, Entry<T>> map, int itemId) {
+        Entry<T> entry = map.get(itemId);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt.isAfter(LocalDateTime.now())) {
+            map.remove(itemId);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                null, null, item.getComments() == null ? null : new ArrayList<>(item.getComments()),
+                item.getRequestId());
+    }
+
+    private static <T> Map<Integer, Entry<T>> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final LocalDateTime expiresAt;
+
+        private Entry(T value, LocalDateTime expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
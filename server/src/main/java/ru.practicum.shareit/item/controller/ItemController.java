@@ -1,15 +1,18 @@
 package ru.practicum.shareit.item.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.exception.error.ErrorResponse;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -37,9 +40,29 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> getItemForSearch(@RequestParam(required = false) String text,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                           @RequestParam(value = "from", defaultValue = "0") int from,
                                           @RequestParam(value = "size", defaultValue = "10") int size) {
-        return itemService.searchItem(text, from, size);
+        return itemService.searchItem(text, start, end, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestNames(@RequestParam(required = false) String prefix,
+                                     @RequestParam(value = "size", defaultValue = "10") int size) {
+        return itemService.suggestNames(prefix, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable int id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to,
+                                               @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        return itemService.getAvailability(id, from, to, includeWaiting);
     }
 
     @PostMapping
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ItemAvailabilityDto {
+    private int itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<IntervalDto> occupied;
+    private List<IntervalDto> free;
+}
@@ -1,11 +1,28 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemCountDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
     List<Comment> findAllByItem(Item item);
+
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author " +
+            "join fetch c.item as i " +
+            "join fetch i.owner " +
+            "where i.id in :itemIds " +
+            "order by c.created")
+    List<Comment> findAllByItemIds(@Param("itemIds") List<Integer> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemCountDto(c.item.id, count(c)) " +
+            "from Comment as c " +
+            "group by c.item.id")
+    List<ItemCountDto> countByItem();
 }
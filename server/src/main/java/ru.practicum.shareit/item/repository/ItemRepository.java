@@ -3,26 +3,81 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
+    String SEARCH_MATCH = "i.is_available = true AND (LOWER(i.name) LIKE '%' || LOWER(:text) || '%' OR " +
+            "LOWER(i.description) LIKE '%' || LOWER(:text) || '%') ";
+
+    String SEARCH_RANK = "(CASE WHEN ' ' || LOWER(i.name) || ' ' LIKE '% ' || LOWER(:text) || ' %' THEN 8 " +
+            "WHEN LOWER(i.name) LIKE '%' || LOWER(:text) || '%' THEN 4 ELSE 0 END + " +
+            "CASE WHEN ' ' || LOWER(i.description) || ' ' LIKE '% ' || LOWER(:text) || ' %' THEN 2 " +
+            "WHEN LOWER(i.description) LIKE '%' || LOWER(:text) || '%' THEN 1 ELSE 0 END + " +
+            "LN(1 + (SELECT COUNT(*) FROM BOOKINGS b " +
+            "WHERE b.item_id = i.id AND b.status = :status AND b.start_date > :since)) + " +
+            "LN(1 + (SELECT COUNT(*) FROM COMMENTS c WHERE c.item_id = i.id)) / 2)";
+
     Page<Item> findAllByOwnerOrderById(User owner, Pageable pageable);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i " +
+            "FROM Item i " +
+            "WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") int id);
+
     @Query("SELECT i.owner " +
             "FROM Item i " +
             "WHERE i.id = :id")
     User getOwnerById(@Param("id") int id);
 
+    @Query(value = "SELECT i.* " +
+            "FROM ITEMS i " +
+            "WHERE " + SEARCH_MATCH +
+            "ORDER BY " + SEARCH_RANK + " DESC, i.id " +
+            "LIMIT :size OFFSET :offset", nativeQuery = true)
+    List<Item> searchItemsRanked(@Param("text") String text, @Param("status") String status,
+                                 @Param("since") LocalDateTime since, @Param("offset") long offset,
+                                 @Param("size") int size);
+
     @Query("SELECT i " +
             "FROM Item i " +
             "WHERE i.available = true AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    Page<Item> searchItems(@Param("text") String text, Pageable pageable);
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "AND NOT EXISTS (SELECT b FROM Booking b " +
+            "WHERE b.item = i AND b.status = :status AND b.end > :start AND b.start < :end) " +
+            "ORDER BY i.id")
+    List<Item> searchItemsFreeBetween(@Param("text") String text, @Param("status") BookingStatus status,
+                                      @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                      Pageable pageable);
+
+    @Query(value = "SELECT i.* " +
+            "FROM ITEMS i " +
+            "WHERE " + SEARCH_MATCH +
+            "ORDER BY " + SEARCH_RANK + " DESC, " +
+            "GREATEST(word_similarity(LOWER(:text), LOWER(i.name)), " +
+            "word_similarity(LOWER(:text), LOWER(i.description))) DESC, i.id " +
+            "LIMIT :size OFFSET :offset", nativeQuery = true)
+    List<Item> searchItemsByTrigram(@Param("text") String text, @Param("status") String status,
+                                    @Param("since") LocalDateTime since, @Param("offset") long offset,
+                                    @Param("size") int size);
 
     List<Item> findByRequestId(Integer request);
+
+    @Query("SELECT i " +
+            "FROM Item i " +
+            "JOIN FETCH i.owner " +
+            "WHERE i.requestId IN :requestIds " +
+            "ORDER BY i.id")
+    List<Item> findByRequestIdIn(@Param("requestIds") Collection<Integer> requestIds);
 }
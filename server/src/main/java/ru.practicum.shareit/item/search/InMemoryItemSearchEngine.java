@@ -0,0 +1,275 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.ServerThreads;
+import ru.practicum.shareit.item.dto.ItemCountDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final int LOAD_BATCH = 1000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Hit> HIT_ORDER = Comparator.comparingDouble((Hit hit) -> -hit.score)
+            .thenComparingInt(hit -> hit.document.id);
+
+    private final ItemRepository repository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ServerThreads threads;
+
+    private final NavigableMap<Integer, Document> documents = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableSet<Integer>> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> approvedBookings = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> comments = new ConcurrentHashMap<>();
+
+    @Value("${shareit.search.popularity-refresh:1h}")
+    private Duration popularityRefresh;
+
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void load() {
+        Page<Item> page = repository.findAll(PageRequest.of(0, LOAD_BATCH, Sort.by("id")));
+        page.forEach(this::index);
+        while (page.hasNext()) {
+            page = repository.findAll(page.nextPageable());
+            page.forEach(this::index);
+        }
+        refreshPopularity();
+        log.info("Item search index built: {} items, {} grams", documents.size(), postings.size());
+        refresher = threads.newScheduler();
+        refresher.scheduleWithFixedDelay(this::refreshPopularity, popularityRefresh.toMillis(),
+                popularityRefresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        String phrase = phrase(query);
+        long skip = (long) from * size;
+        if (skip + size > Integer.MAX_VALUE) {
+            return new ArrayList<>();
+        }
+        int limit = (int) skip + size;
+        PriorityQueue<Hit> top = new PriorityQueue<>(HIT_ORDER.reversed());
+        for (Integer id : candidates(query)) {
+            Document document = documents.get(id);
+            if (document != null && document.matches(query)) {
+                top.add(new Hit(document, document.score(query, phrase) + popularity(id)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(HIT_ORDER);
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = (int) skip; i < ranked.size(); i++) {
+            items.add(ranked.get(i).document.toItemDto());
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized void index(Item item) {
+        unindex(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Document document = new Document(item);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new ConcurrentSkipListSet<>()).add(document.id);
+        }
+        documents.put(document.id, document);
+    }
+
+    @Override
+    public synchronized void remove(int itemId) {
+        unindex(itemId);
+        approvedBookings.remove(itemId);
+        comments.remove(itemId);
+    }
+
+    private void unindex(int itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            NavigableSet<Integer> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void bookingApproved(int itemId) {
+        approvedBookings.merge(itemId, 1, Integer::sum);
+    }
+
+    @Override
+    public void commentAdded(int itemId) {
+        comments.merge(itemId, 1, Integer::sum);
+    }
+
+    private void refreshPopularity() {
+        try {
+            replace(approvedBookings, bookingRepository.countByItemAndStatusStartedAfter(BookingStatus.APPROVED,
+                    LocalDateTime.now().minus(RECENT_BOOKINGS)));
+            replace(comments, commentRepository.countByItem());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh item popularity", e);
+        }
+    }
+
+    @Override
+    public double popularity(int itemId) {
+        return Math.log(1 + approvedBookings.getOrDefault(itemId, 0))
+                + Math.log(1 + comments.getOrDefault(itemId, 0)) / 2;
+    }
+
+    private Iterable<Integer> candidates(String query) {
+        if (query.length() < GRAM) {
+            NavigableSet<Integer> ids = postings.get(query);
+            return ids == null ? Collections.emptyList() : ids;
+        }
+        List<NavigableSet<Integer>> sets = new ArrayList<>();
+        for (String gram : grams(query, GRAM)) {
+            NavigableSet<Integer> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Integer> smallest = sets.get(0);
+        List<NavigableSet<Integer>> others = sets.subList(1, sets.size());
+        return () -> smallest.stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .iterator();
+    }
+
+    private static void replace(Map<Integer, Integer> counters, List<ItemCountDto> counts) {
+        Map<Integer, Integer> fresh = new HashMap<>();
+        for (ItemCountDto count : counts) {
+            fresh.put(count.getItemId(), count.getCount().intValue());
+        }
+        counters.keySet().retainAll(fresh.keySet());
+        counters.putAll(fresh);
+    }
+
+    private static Set<String> grams(String text, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static String phrase(String text) {
+        String joined = String.join(" ", TOKEN_SEPARATOR.split(text.trim()));
+        return joined.isBlank() ? null : " " + joined + " ";
+    }
+
+    private static final class Document {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final Integer requestId;
+        private final String nameLower;
+        private final String descriptionLower;
+        private final String namePhrase;
+        private final String descriptionPhrase;
+
+        private Document(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.requestId = item.getRequestId();
+            this.nameLower = name.toLowerCase(Locale.ROOT);
+            this.descriptionLower = description.toLowerCase(Locale.ROOT);
+            this.namePhrase = phrase(nameLower);
+            this.descriptionPhrase = phrase(descriptionLower);
+        }
+
+        private boolean matches(String query) {
+            return nameLower.contains(query) || descriptionLower.contains(query);
+        }
+
+        private double score(String query, String phrase) {
+            double score = 0;
+            if (phrase != null && namePhrase != null && namePhrase.contains(phrase)) {
+                score += 8;
+            } else if (nameLower.contains(query)) {
+                score += 4;
+            }
+            if (phrase != null && descriptionPhrase != null && descriptionPhrase.contains(phrase)) {
+                score += 2;
+            } else if (descriptionLower.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (int length = 1; length <= GRAM; length++) {
+                grams.addAll(InMemoryItemSearchEngine.grams(nameLower, length));
+                grams.addAll(InMemoryItemSearchEngine.grams(descriptionLower, length));
+            }
+            return grams;
+        }
+
+        private ItemDto toItemDto() {
+            return new ItemDto(id, name, description, true, null, null, null, requestId);
+        }
+    }
+
+    private static final class Hit {
+        private final Document document;
+        private final double score;
+
+        private Hit(Document document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
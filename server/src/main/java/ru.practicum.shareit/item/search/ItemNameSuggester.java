@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+@RequiredArgsConstructor
+public class ItemNameSuggester {
+
+    private static final int LOAD_BATCH = 1000;
+    private static final char ID_SEPARATOR = '\u0000';
+    private static final Comparator<Suggestion> SUGGESTION_ORDER = Comparator
+            .comparingDouble((Suggestion suggestion) -> -suggestion.popularity)
+            .thenComparing(suggestion -> suggestion.lowerName);
+
+    private final ItemRepository repository;
+    private final ItemSearchEngine searchEngine;
+
+    private final NavigableMap<String, String> names = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> keys = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        Page<Item> page = repository.findAll(PageRequest.of(0, LOAD_BATCH, Sort.by("id")));
+        page.forEach(this::index);
+        while (page.hasNext()) {
+            page = repository.findAll(page.nextPageable());
+            page.forEach(this::index);
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(SUGGESTION_ORDER.reversed());
+        Suggestion current = null;
+        for (Map.Entry<String, String> entry : names.tailMap(lowerPrefix).entrySet()) {
+            if (!entry.getKey().startsWith(lowerPrefix)) {
+                break;
+            }
+            int separator = entry.getKey().lastIndexOf(ID_SEPARATOR);
+            String lowerName = entry.getKey().substring(0, separator);
+            double popularity = searchEngine.popularity(Integer.parseInt(entry.getKey().substring(separator + 1)));
+            if (current != null && current.lowerName.equals(lowerName)) {
+                current.popularity = Math.max(current.popularity, popularity);
+                continue;
+            }
+            offer(top, current, size);
+            current = new Suggestion(lowerName, entry.getValue(), popularity);
+        }
+        offer(top, current, size);
+        List<Suggestion> ranked = new ArrayList<>(top);
+        ranked.sort(SUGGESTION_ORDER);
+        List<String> suggestions = new ArrayList<>();
+        for (Suggestion suggestion : ranked) {
+            suggestions.add(suggestion.name);
+        }
+        return suggestions;
+    }
+
+    public synchronized void index(Item item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        String key = item.getName().toLowerCase(Locale.ROOT) + ID_SEPARATOR + item.getId();
+        names.put(key, item.getName());
+        keys.put(item.getId(), key);
+    }
+
+    public synchronized void remove(int itemId) {
+        String key = keys.remove(itemId);
+        if (key != null) {
+            names.remove(key);
+        }
+    }
+
+    private static void offer(PriorityQueue<Suggestion> top, Suggestion suggestion, int size) {
+        if (suggestion == null) {
+            return;
+        }
+        top.add(suggestion);
+        if (top.size() > size) {
+            top.poll();
+        }
+    }
+
+    private static final class Suggestion {
+        private final String lowerName;
+        private final String name;
+        private double popularity;
+
+        private Suggestion(String lowerName, String name, double popularity) {
+            this.lowerName = lowerName;
+            this.name = name;
+            this.popularity = popularity;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Map<String, Entry> entries;
+    private long version;
+
+    public ItemSearchCache(@Value("${shareit.search.cache-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache-ttl:1m}") Duration ttl,
+                           MeterRegistry registry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.hits = registry.counter("shareit.search.cache", "result", "hit");
+        this.misses = registry.counter("shareit.search.cache", "result", "miss");
+        this.evictions = registry.counter("shareit.search.cache.evictions");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ItemSearchCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        registry.gauge("shareit.search.cache.size", entries, Map::size);
+    }
+
+    public List<ItemDto> get(String text, int from, int size, Supplier<List<ItemDto>> search) {
+        String query = text.toLowerCase(Locale.ROOT);
+        String key = query + "|" + from + "|" + size;
+        long searchVersion;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt.isAfter(LocalDateTime.now())) {
+                hits.increment();
+                return entry.items;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            searchVersion = version;
+        }
+        misses.increment();
+        List<ItemDto> items = Collections.unmodifiableList(search.get());
+        synchronized (this) {
+            if (maxSize > 0 && searchVersion == version) {
+                entries.put(key, new Entry(query, items, LocalDateTime.now().plus(ttl)));
+            }
+        }
+        return items;
+    }
+
+    public void invalidate(String name, String description) {
+        evict(name, description);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(name, description);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(String name, String description) {
+        version++;
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        String lowerDescription = description.toLowerCase(Locale.ROOT);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            String query = iterator.next().query;
+            if (lowerName.contains(query) || lowerDescription.contains(query)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String query;
+        private final List<ItemDto> items;
+        private final LocalDateTime expiresAt;
+
+        private Entry(String query, List<ItemDto> items, LocalDateTime expiresAt) {
+            this.query = query;
+            this.items = items;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Period;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    Period RECENT_BOOKINGS = Period.ofDays(30);
+
+    public List<ItemDto> search(String text, int from, int size);
+
+    default void index(Item item) {
+    }
+
+    default void remove(int itemId) {
+    }
+
+    default void bookingApproved(int itemId) {
+    }
+
+    default void commentAdded(int itemId) {
+    }
+
+    default double popularity(int itemId) {
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "jpa")
+public class JpaItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository repository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        List<ItemDto> itemsDto = new ArrayList<>();
+        for (Item item : repository.searchItemsRanked(text, BookingStatus.APPROVED.name(),
+                LocalDateTime.now().minus(RECENT_BOOKINGS), (long) from * size, size)) {
+            itemsDto.add(ItemMapper.toItemDto(item));
+        }
+        return itemsDto;
+    }
+}
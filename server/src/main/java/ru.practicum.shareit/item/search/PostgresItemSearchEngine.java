@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository repository;
+    private final DataSource dataSource;
+
+    private boolean trigramSupported;
+
+    @PostConstruct
+    public void detectDatabase() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(product)) {
+            log.warn("Trigram search is not available on {}, falling back to ranked LIKE search", product);
+            return;
+        }
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("search-postgresql.sql")).execute(dataSource);
+            trigramSupported = true;
+        } catch (DataAccessException e) {
+            log.warn("Could not install pg_trgm and its indexes, falling back to ranked LIKE search", e);
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        LocalDateTime since = LocalDateTime.now().minus(RECENT_BOOKINGS);
+        List<Item> items;
+        if (trigramSupported) {
+            items = repository.searchItemsByTrigram(text, BookingStatus.APPROVED.name(), since,
+                    (long) from * size, size);
+        } else {
+            items = repository.searchItemsRanked(text, BookingStatus.APPROVED.name(), since,
+                    (long) from * size, size);
+        }
+        List<ItemDto> itemsDto = new ArrayList<>();
+        for (Item item : items) {
+            itemsDto.add(ItemMapper.toItemDto(item));
+        }
+        return itemsDto;
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +19,12 @@ public interface ItemService {
 
     public ItemDto deleteItem(int ownerId, int id);
 
-    public List<ItemDto> searchItem(String text, int from, int size);
+    public List<ItemDto> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    public List<String> suggestNames(String prefix, int size);
 
     public CommentDto postComment(int userId, int itemid, CommentDto commentDto);
+
+    public ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to,
+                                               boolean includeWaiting);
 }
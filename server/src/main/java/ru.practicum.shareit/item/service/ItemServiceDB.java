@@ -3,53 +3,83 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.EventBroadcaster;
+import ru.practicum.shareit.event.dto.RequestItemEventDto;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.CachedBookings;
+import ru.practicum.shareit.item.cache.CachedItem;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceDB implements ItemService {
 
     private final ItemRepository repository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemNameSuggester nameSuggester;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailCache itemCache;
+    private final ItemRequestMatcher requestMatcher;
+    private final ItemRequestRepository requestRepository;
+    private final EventBroadcaster eventBroadcaster;
 
     @Override
     public ItemDto getItem(int userId, int itemId) {
-        Item item = repository.getById(itemId);
-        ItemDto itemDto = ItemMapper.toItemDto(repository.getById(itemId));
-        if (getNextBookingByItem(item) != null && userId == item.getOwner().getId()) {
-            itemDto.setNextBooking(BookingMapper.toBookingDto(getNextBookingByItem(item)));
-        }
-        if (getLastBookingByItem(item) != null && userId == item.getOwner().getId()) {
-            itemDto.setLastBooking(BookingMapper.toBookingDto(getLastBookingByItem(item)));
-        }
-        List<CommentDto> commentsByItem = new ArrayList<>();
-        if (commentRepository.findAllByItem(item) != null) {
-            for (Comment comment : commentRepository.findAllByItem(item)) {
-                CommentDto commentDto = CommentMapper.toCommentDto(comment);
-                commentsByItem.add(commentDto);
+        long cacheVersion = itemCache.version();
+        CachedItem cachedItem = itemCache.getItem(itemId);
+        if (cachedItem == null) {
+            Item item = repository.findById(itemId).orElseThrow(() ->
+                    new EntityNotFoundException("Такой вещи нет"));
+            ItemDto itemDto = ItemMapper.toItemDto(item);
+            itemDto.setComments(getCommentsByItem(List.of(item)).getOrDefault(itemId, new ArrayList<>()));
+            cachedItem = new CachedItem(item.getOwner().getId(), itemDto);
+            itemCache.putItem(itemId, cachedItem, cacheVersion);
+        }
+        ItemDto itemDto = cachedItem.getItem();
+        if (userId == cachedItem.getOwnerId()) {
+            CachedBookings cachedBookings = itemCache.getBookings(itemId);
+            if (cachedBookings == null) {
+                Map<Integer, BookingDto> lastBookings = new HashMap<>();
+                Map<Integer, BookingDto> nextBookings = new HashMap<>();
+                fillLastAndNextBookings(List.of(itemId), lastBookings, nextBookings);
+                cachedBookings = new CachedBookings(lastBookings.get(itemId), nextBookings.get(itemId));
+                itemCache.putBookings(itemId, cachedBookings, cacheVersion);
             }
-            itemDto.setComments(commentsByItem);
+            itemDto.setLastBooking(cachedBookings.getLastBooking());
+            itemDto.setNextBooking(cachedBookings.getNextBooking());
         }
         return itemDto;
     }
@@ -57,20 +87,20 @@ public class ItemServiceDB implements ItemService {
     @Override
     public List<ItemDto> getItems(int ownerId, int from, int size) {
         ArrayList<ItemDto> items = new ArrayList<>();
-        List<CommentDto> commentsByItem = new ArrayList<>();
-        for (Item item : repository.findAllByOwnerOrderById(userRepository.getById(ownerId),
-                PageRequest.of(from, size))) {
+        List<Item> ownerItems = repository.findAllByOwnerOrderById(userCache.getReference(ownerId),
+                PageRequest.of(from, size)).getContent();
+        if (ownerItems.isEmpty()) {
+            return items;
+        }
+        Map<Integer, BookingDto> lastBookings = new HashMap<>();
+        Map<Integer, BookingDto> nextBookings = new HashMap<>();
+        fillLastAndNextBookings(getItemIds(ownerItems), lastBookings, nextBookings);
+        Map<Integer, List<CommentDto>> commentsByItem = getCommentsByItem(ownerItems);
+        for (Item item : ownerItems) {
             ItemDto itemDto = ItemMapper.toItemDto(item);
-            if (getLastBookingByItem(item) != null) {
-                itemDto.setLastBooking(BookingMapper.toBookingDto(getLastBookingByItem(item)));
-            }
-            if (getNextBookingByItem(item) != null) {
-                itemDto.setNextBooking(BookingMapper.toBookingDto(getNextBookingByItem(item)));
-            }
-            for (Comment comment : commentRepository.findAllByItem(item)) {
-                commentsByItem.add(CommentMapper.toCommentDto(comment));
-            }
-            itemDto.setComments(commentsByItem);
+            itemDto.setLastBooking(lastBookings.get(item.getId()));
+            itemDto.setNextBooking(nextBookings.get(item.getId()));
+            itemDto.setComments(commentsByItem.getOrDefault(item.getId(), new ArrayList<>()));
             items.add(itemDto);
         }
         return items;
@@ -81,18 +111,29 @@ public class ItemServiceDB implements ItemService {
         if (item.getName().isEmpty() || item.getDescription() == null || item.getAvailable() == null) {
             throw new ValidationException("Нужно заполнить все поля!");
         }
-        if (userRepository.findById(ownerId).isEmpty()) {
+        if (!userCache.exists(ownerId)) {
             throw new NullPointerException("Такого пользователя нет");
         }
         Item newItem = new Item();
         newItem.setName(item.getName());
         newItem.setDescription(item.getDescription());
         newItem.setAvailable(item.getAvailable());
-        newItem.setOwner(userRepository.getById(ownerId));
+        newItem.setOwner(userCache.getReference(ownerId));
         if (item.getRequestId() != null) {
             newItem.setRequestId(item.getRequestId());
         }
-        return ItemMapper.toItemDto(repository.save(newItem));
+        Item savedItem = repository.save(newItem);
+        searchEngine.index(savedItem);
+        nameSuggester.index(savedItem);
+        searchCache.invalidate(savedItem.getName(), savedItem.getDescription());
+        ItemDto savedItemDto = ItemMapper.toItemDto(savedItem);
+        if (savedItem.getRequestId() != null) {
+            requestRepository.findById(savedItem.getRequestId()).ifPresent(request ->
+                    eventBroadcaster.publish(request.getRequestorId(), EventBroadcaster.REQUEST_ITEM_EVENT,
+                            new RequestItemEventDto(request.getId(), savedItemDto, false)));
+        }
+        publishSuggestions(requestMatcher.suggest(savedItem), savedItemDto);
+        return savedItemDto;
     }
 
     @Override
@@ -102,6 +143,8 @@ public class ItemServiceDB implements ItemService {
         }
         Item existsItem = repository.findById(id).orElseThrow(() ->
                 new ResourceNotFoundException("Такой вещи не существует"));
+        String oldName = existsItem.getName();
+        String oldDescription = existsItem.getDescription();
         if (item.getName() != null) {
             existsItem.setName(item.getName());
         }
@@ -112,22 +155,40 @@ public class ItemServiceDB implements ItemService {
             existsItem.setAvailable(item.getAvailable());
         }
         repository.save(existsItem);
-        return ItemMapper.toItemDto(existsItem);
+        searchEngine.index(existsItem);
+        nameSuggester.index(existsItem);
+        itemCache.evict(id);
+        searchCache.invalidate(oldName, oldDescription);
+        searchCache.invalidate(existsItem.getName(), existsItem.getDescription());
+        ItemDto patchedItemDto = ItemMapper.toItemDto(existsItem);
+        publishSuggestions(requestMatcher.resuggest(existsItem), patchedItemDto);
+        return patchedItemDto;
     }
 
     @Override
     public ItemDto deleteItem(int ownerId, int id) {
         ItemDto itemDto = ItemMapper.toItemDto(repository.getById(id));
         repository.deleteById(id);
+        searchEngine.remove(id);
+        nameSuggester.remove(id);
+        itemCache.evict(id);
+        searchCache.invalidate(itemDto.getName(), itemDto.getDescription());
         return itemDto;
     }
 
     @Override
-    public List<ItemDto> searchItem(String text, int from, int size) {
+    public List<ItemDto> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new ValidationException("Неправильно указан период!");
+        }
         if (text == null || text.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> items = repository.searchItems(text, PageRequest.of(from, size)).toList();
+        if (start == null) {
+            return searchCache.get(text, from, size, () -> searchEngine.search(text, from, size));
+        }
+        List<Item> items = repository.searchItemsFreeBetween(text, BookingStatus.APPROVED, start, end,
+                PageRequest.of(from, size));
         List<ItemDto> itemsDto = new ArrayList<>();
         for (Item item : items) {
             itemsDto.add(ItemMapper.toItemDto(item));
@@ -135,13 +196,21 @@ public class ItemServiceDB implements ItemService {
         return itemsDto;
     }
 
+    @Override
+    public List<String> suggestNames(String prefix, int size) {
+        if (prefix == null || prefix.isEmpty() || size <= 0) {
+            return new ArrayList<>();
+        }
+        return nameSuggester.suggest(prefix, size);
+    }
+
     @Override
     public CommentDto postComment(int userId, int itemId, CommentDto commentDto) {
         if (commentDto.getText().isEmpty()) {
             throw new ValidationException("Текст не должен быть пустой");
         }
         Comment comment = CommentMapper.toComment(commentDto);
-        User author = userRepository.getById(userId);
+        User author = userCache.getReference(userId);
         Item item = repository.getById(itemId);
         Booking booking = bookingRepository.findFirstByItemAndBookerAndStatusAndEndBefore(item, author,
                 BookingStatus.APPROVED, LocalDateTime.now());
@@ -151,17 +220,80 @@ public class ItemServiceDB implements ItemService {
             comment.setItem(item);
             comment.setAuthor(author);
             comment.setCreated(LocalDateTime.now());
-            return CommentMapper.toCommentDto(commentRepository.save(comment));
+            Comment savedComment = commentRepository.save(comment);
+            searchEngine.commentAdded(itemId);
+            searchCache.invalidate(item.getName(), item.getDescription());
+            itemCache.evictItem(itemId);
+            return CommentMapper.toCommentDto(savedComment);
         }
     }
 
-    public Booking getNextBookingByItem(Item item) {
-        return bookingRepository.findFirstByItemAndStatusAndStartAfterOrderByStart(item,
-                BookingStatus.APPROVED, LocalDateTime.now());
+    @Override
+    public ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to,
+                                               boolean includeWaiting) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Неправильно указан период!");
+        }
+        if (!repository.existsById(itemId)) {
+            throw new EntityNotFoundException("Такой вещи нет");
+        }
+        List<BookingStatus> statuses = includeWaiting
+                ? List.of(BookingStatus.APPROVED, BookingStatus.WAITING)
+                : List.of(BookingStatus.APPROVED);
+        List<IntervalDto> occupied = new ArrayList<>();
+        for (IntervalDto booking : bookingRepository.findIntervalsByItemId(itemId, statuses, from, to)) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            IntervalDto last = occupied.isEmpty() ? null : occupied.get(occupied.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (end.isAfter(last.getEnd())) {
+                    last.setEnd(end);
+                }
+            } else {
+                occupied.add(new IntervalDto(start, end));
+            }
+        }
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (IntervalDto interval : occupied) {
+            if (interval.getStart().isAfter(freeFrom)) {
+                free.add(new IntervalDto(freeFrom, interval.getStart()));
+            }
+            freeFrom = interval.getEnd();
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new IntervalDto(freeFrom, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, occupied, free);
     }
 
-    public Booking getLastBookingByItem(Item item) {
-        return bookingRepository.findFirstByItemAndStatusAndStartBeforeOrderByStartDesc(item,
-                BookingStatus.APPROVED, LocalDateTime.now());
+    private void fillLastAndNextBookings(List<Integer> itemIds, Map<Integer, BookingDto> lastBookings,
+                                         Map<Integer, BookingDto> nextBookings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingDto booking : bookingRepository.findLastAndNextByItemIds(itemIds,
+                BookingStatus.APPROVED, now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.putIfAbsent(booking.getItemId(), booking);
+            } else {
+                nextBookings.putIfAbsent(booking.getItemId(), booking);
+            }
+        }
+    }
+
+    private void publishSuggestions(Map<Integer, Integer> requestors, ItemDto itemDto) {
+        requestors.forEach((requestId, requestorId) -> eventBroadcaster.publish(requestorId,
+                EventBroadcaster.REQUEST_ITEM_EVENT, new RequestItemEventDto(requestId, itemDto, true)));
+    }
+
+    private Map<Integer, List<CommentDto>> getCommentsByItem(List<Item> items) {
+        return commentRepository.findAllByItemIds(getItemIds(items)).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+    }
+
+    private List<Integer> getItemIds(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package ru.practicum.shareit.request.contorller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.exception.error.ErrorResponse;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -28,10 +30,18 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequest(@RequestHeader("X-Sharer-User-Id") int userId,
-                                              @RequestParam(value = "from", defaultValue = "0") int from,
-                                              @RequestParam(value = "size", defaultValue = "10") int size) {
-        return service.getAllRequest(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequest(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "after", required = false) String after) {
+        List<ItemRequestDto> requests = service.getAllRequest(userId, from, size, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!requests.isEmpty() && requests.size() >= size) {
+            ItemRequestDto last = requests.get(requests.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
     }
 
     @GetMapping("/{requestId}")
@@ -16,4 +16,5 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private List<Item> items;
+    private List<Item> suggestedItems;
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ public class ItemRequestMapper {
         return new ItemRequestDto(request.getId(),
                 request.getDescription(),
                 request.getCreated(),
-                request.getItems());
+                request.getItems(),
+                request.getSuggestedItems());
     }
 }
\ No newline at end of file
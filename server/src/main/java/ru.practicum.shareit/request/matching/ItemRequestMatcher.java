@@ -0,0 +1,128 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+
+import javax.annotation.PostConstruct;
+import javax.transaction.Transactional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemRequestMatcher {
+
+    private static final int LOAD_BATCH = 1000;
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRequestRepository requestRepository;
+    private final RequestSuggestionRepository suggestionRepository;
+
+    private final Map<String, Set<Integer>> requestsByToken = new ConcurrentHashMap<>();
+    private final Map<Integer, OpenRequest> openRequests = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<ItemRequest> requests;
+        int page = 0;
+        do {
+            requests = requestRepository.findOpen(PageRequest.of(page++, LOAD_BATCH));
+            requests.forEach(this::index);
+        } while (requests.size() == LOAD_BATCH);
+        log.info("Request matcher built: {} open requests, {} tokens", openRequests.size(), requestsByToken.size());
+    }
+
+    public synchronized void index(ItemRequest request) {
+        OpenRequest openRequest = new OpenRequest(request.getRequestorId(), tokens(request.getDescription()));
+        for (String token : openRequest.tokens) {
+            requestsByToken.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(request.getId());
+        }
+        openRequests.put(request.getId(), openRequest);
+    }
+
+    public synchronized void close(int requestId) {
+        OpenRequest openRequest = openRequests.remove(requestId);
+        if (openRequest == null) {
+            return;
+        }
+        for (String token : openRequest.tokens) {
+            Set<Integer> ids = requestsByToken.get(token);
+            if (ids != null) {
+                ids.remove(requestId);
+                if (ids.isEmpty()) {
+                    requestsByToken.remove(token);
+                }
+            }
+        }
+    }
+
+    public Map<Integer, Integer> match(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return new TreeMap<>();
+        }
+        Set<String> nameTokens = tokens(item.getName());
+        Map<Integer, Integer> hits = new HashMap<>();
+        for (String token : nameTokens) {
+            for (Integer requestId : requestsByToken.getOrDefault(token, Set.of())) {
+                hits.merge(requestId, 1, Integer::sum);
+            }
+        }
+        Map<Integer, Integer> requestors = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> hit : hits.entrySet()) {
+            OpenRequest openRequest = openRequests.get(hit.getKey());
+            if (openRequest != null && !openRequest.requestorId.equals(item.getOwner().getId())
+                    && hit.getValue() * 2 >= nameTokens.size()) {
+                requestors.put(hit.getKey(), openRequest.requestorId);
+            }
+        }
+        return requestors;
+    }
+
+    @Transactional
+    public Map<Integer, Integer> suggest(Item item) {
+        if (item.getRequestId() != null) {
+            close(item.getRequestId());
+            return new TreeMap<>();
+        }
+        Map<Integer, Integer> requestors = match(item);
+        if (!requestors.isEmpty()) {
+            suggestionRepository.insertAll(item.getId(), requestors.keySet());
+        }
+        return requestors;
+    }
+
+    @Transactional
+    public Map<Integer, Integer> resuggest(Item item) {
+        suggestionRepository.deleteByItemId(item.getId());
+        return suggest(item);
+    }
+
+    private static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class OpenRequest {
+        private final Integer requestorId;
+        private final Set<String> tokens;
+
+        private OpenRequest(Integer requestorId, Set<String> tokens) {
+            this.requestorId = requestorId;
+            this.tokens = tokens;
+        }
+    }
+}
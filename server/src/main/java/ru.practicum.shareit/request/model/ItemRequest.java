@@ -29,4 +29,6 @@ public class ItemRequest {
     private LocalDateTime created;
     @Transient
     private List<Item> items;
+    @Transient
+    private List<Item> suggestedItems;
 }
\ No newline at end of file
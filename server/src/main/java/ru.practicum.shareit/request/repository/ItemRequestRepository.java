@@ -3,8 +3,11 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
@@ -12,4 +15,21 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Intege
     public List<ItemRequest> findByRequestorId(Integer id);
 
     public Page<ItemRequest> getByRequestorId(Integer id, Pageable page);
+
+    public List<ItemRequest> findByRequestorIdNotOrderByCreatedAscIdAsc(Integer id, Pageable page);
+
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where r.requestorId <> :userId " +
+            "and (r.created > :created or (r.created = :created and r.id > :id)) " +
+            "order by r.created, r.id")
+    public List<ItemRequest> findByRequestorIdNotAfter(@Param("userId") Integer userId,
+                                                       @Param("created") LocalDateTime created,
+                                                       @Param("id") Integer id, Pageable page);
+
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where not exists (select i from Item as i where i.requestId = r.id) " +
+            "order by r.id")
+    public List<ItemRequest> findOpen(Pageable page);
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Integer> {
+
+    @Query("select s " +
+            "from RequestSuggestion as s " +
+            "join fetch s.item as i " +
+            "join fetch i.owner " +
+            "where s.requestId in :requestIds " +
+            "order by i.id")
+    public List<RequestSuggestion> findByRequestIdIn(@Param("requestIds") Collection<Integer> requestIds);
+
+    @Modifying
+    @Query("delete from RequestSuggestion as s " +
+            "where s.item.id = :itemId")
+    public void deleteByItemId(@Param("itemId") Integer itemId);
+
+    @Modifying
+    @Query("insert into RequestSuggestion (requestId, item) " +
+            "select r.id, i " +
+            "from ItemRequest as r, Item as i " +
+            "where r.id in :requestIds and i.id = :itemId")
+    public int insertAll(@Param("itemId") Integer itemId, @Param("requestIds") Collection<Integer> requestIds);
+}
@@ -10,7 +10,7 @@ public interface ItemRequestService {
 
     public List<ItemRequestDto> getRequest(Integer userId);
 
-    public List<ItemRequestDto> getAllRequest(Integer userId, Integer from, Integer size);
+    public List<ItemRequestDto> getAllRequest(Integer userId, Integer from, Integer size, String after);
 
     public ItemRequestDto getRequestById(Integer requestId, Integer userId);
 }
@@ -2,27 +2,35 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.ItemRequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceDB implements ItemRequestService {
 
     private final ItemRequestRepository repository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userCache;
     private final ItemRepository itemRepository;
+    private final RequestSuggestionRepository suggestionRepository;
+    private final ItemRequestMatcher requestMatcher;
 
     @Override
     public ItemRequestDto postRequest(Integer userId, ItemRequestDto requestDto) {
@@ -36,7 +44,9 @@ public class ItemRequestServiceDB implements ItemRequestService {
         newRequest.setRequestorId(userId);
         newRequest.setDescription(requestDto.getDescription());
         newRequest.setCreated(LocalDateTime.now());
-        return ItemRequestMapper.toRequestDto(repository.save(newRequest));
+        ItemRequest savedRequest = repository.save(newRequest);
+        requestMatcher.index(savedRequest);
+        return ItemRequestMapper.toRequestDto(savedRequest);
     }
 
     @Override
@@ -44,29 +54,23 @@ public class ItemRequestServiceDB implements ItemRequestService {
         if (isValidUser(userId)) {
             throw new NullPointerException("Такого пользователя не существует!");
         }
-        List<ItemRequestDto> requests = new ArrayList<>();
-        for (ItemRequest request : repository.findByRequestorId(userId)) {
-            request.setItems(itemRepository.findByRequestId(request.getId()));
-            requests.add(ItemRequestMapper.toRequestDto(request));
-        }
-        return requests;
+        return toRequestDtos(repository.findByRequestorId(userId));
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequest(Integer userId, Integer from, Integer size) {
+    public List<ItemRequestDto> getAllRequest(Integer userId, Integer from, Integer size, String after) {
         if (from < 0 || size < 0 || from > size || size == 0) {
             throw new ValidationException("Неправильно указаны размеры");
         }
-        List<ItemRequestDto> requests = new ArrayList<>();
-        for (ItemRequest request : repository.findAll(PageRequest.of(from, size,
-                Sort.by(Sort.Direction.ASC, "created"))).toList()) {
-            if (userId.equals(request.getRequestorId())) {
-                continue;
-            }
-            request.setItems(itemRepository.findByRequestId(request.getId()));
-            requests.add(ItemRequestMapper.toRequestDto(request));
+        List<ItemRequest> requests;
+        if (after != null) {
+            PageCursor cursor = PageCursor.decode(after);
+            requests = repository.findByRequestorIdNotAfter(userId, cursor.getTimestamp(), cursor.getId(),
+                    PageRequest.of(0, size));
+        } else {
+            requests = repository.findByRequestorIdNotOrderByCreatedAscIdAsc(userId, PageRequest.of(from, size));
         }
-        return requests;
+        return toRequestDtos(requests);
     }
 
     @Override
@@ -77,12 +81,31 @@ public class ItemRequestServiceDB implements ItemRequestService {
         if (isValidUser(userId)) {
             throw new NullPointerException("Такого пользователя не существует!");
         }
-        ItemRequest itemRequest = repository.getById(requestId);
-        itemRequest.setItems(itemRepository.findByRequestId(requestId));
-        return ItemRequestMapper.toRequestDto(itemRequest);
+        return toRequestDtos(List.of(repository.getById(requestId))).get(0);
+    }
+
+    private List<ItemRequestDto> toRequestDtos(List<ItemRequest> requests) {
+        List<ItemRequestDto> requestsDto = new ArrayList<>();
+        if (requests.isEmpty()) {
+            return requestsDto;
+        }
+        List<Integer> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<Item>> itemsByRequest = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        Map<Integer, List<Item>> suggestionsByRequest = suggestionRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(RequestSuggestion::getRequestId,
+                        Collectors.mapping(RequestSuggestion::getItem, Collectors.toList())));
+        for (ItemRequest request : requests) {
+            request.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+            request.setSuggestedItems(suggestionsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+            requestsDto.add(ItemRequestMapper.toRequestDto(request));
+        }
+        return requestsDto;
     }
 
     private boolean isValidUser(Integer userId) {
-        return userRepository.findById(userId).isEmpty();
+        return !userCache.exists(userId);
     }
 }
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache {
+
+    private static final int LOAD_BATCH = 10000;
+
+    private final UserRepository repository;
+
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        List<Integer> batch;
+        int after = 0;
+        do {
+            batch = repository.findIdsAfter(after, PageRequest.of(0, LOAD_BATCH));
+            batch.forEach(this::add);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == LOAD_BATCH);
+        log.info("User existence cache loaded: {} users", size());
+    }
+
+    public boolean exists(int userId) {
+        if (userId < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public User getReference(int userId) {
+        return repository.getById(userId);
+    }
+
+    public void add(int userId) {
+        lock.writeLock().lock();
+        try {
+            ids.set(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int userId) {
+        lock.writeLock().lock();
+        try {
+            ids.clear(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return ids.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -2,12 +2,16 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
     public UserDto getUser(int id);
 
-    public List<UserDto> getUsers();
+    public List<UserDto> getUsers(Integer from, Integer size, Integer after);
+
+    public void exportUsers(OutputStream out) throws IOException;
 
     public UserDto postUser(UserDto user);
 
@@ -1,22 +1,36 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceDB implements UserService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository repository;
+    private final ObjectMapper objectMapper;
+    private final UserExistenceCache userCache;
 
     @Override
     public UserDto getUser(int id) {
@@ -24,15 +38,42 @@ public class UserServiceDB implements UserService {
     }
 
     @Override
-    public List<UserDto> getUsers() {
+    public List<UserDto> getUsers(Integer from, Integer size, Integer after) {
+        if (from == null) {
+            from = 0;
+        }
+        if (size == null) {
+            size = MAX_PAGE_SIZE;
+        }
+        if (from < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Неправильно указаны размеры");
+        }
+        List<User> users;
+        if (after != null) {
+            users = repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size));
+        } else {
+            users = repository.findAllByOrderByIdAsc(PageRequest.of(from / size, size));
+        }
         List<UserDto> usersDto = new ArrayList<>();
-        List<User> users = repository.findAll();
         for (User user : users) {
             usersDto.add(UserMapper.toUserDto(user));
         }
         return usersDto;
     }
 
+    @Transactional
+    @Override
+    public void exportUsers(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<UserDto> users = repository.streamAll()) {
+            for (UserDto user : (Iterable<UserDto>) users::iterator) {
+                writer.write(objectMapper.writeValueAsString(user));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
     @Override
     public UserDto postUser(UserDto user) {
         if (user.getName() == null || user.getEmail() == null) {
@@ -41,7 +82,9 @@ public class UserServiceDB implements UserService {
         if (!isValidEmail(user.getEmail())) {
             throw new ValidationException("Почта некорректна");
         }
-        return UserMapper.toUserDto(repository.save(UserMapper.toUser(user)));
+        User savedUser = repository.save(UserMapper.toUser(user));
+        userCache.add(savedUser.getId());
+        return UserMapper.toUserDto(savedUser);
     }
 
     @Transactional
@@ -63,6 +106,7 @@ public class UserServiceDB implements UserService {
     public UserDto deleteUser(int id) {
         UserDto user = UserMapper.toUserDto(repository.getById(id));
         repository.deleteById(id);
+        userCache.remove(id);
         return user;
     }
 
@@ -39,4 +39,21 @@ create TABLE IF NOT EXISTS REQUESTS (
     requestor_id int NOT NULL,
     description varchar(1000) NOT NULL,
     created timestamp
-);
\ No newline at end of file
+);
+
+create TABLE IF NOT EXISTS REQUEST_SUGGESTIONS (
+    id INTEGER NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id int NOT NULL,
+    item_id int NOT NULL,
+    FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE,
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    CONSTRAINT UNIQ_REQUEST_SUGGESTION UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_STATUS_START_IDX ON BOOKINGS (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ITEMS_OWNER_IDX ON ITEMS (owner_id);
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_END_IDX ON BOOKINGS (item_id, end_date);
+CREATE INDEX IF NOT EXISTS COMMENTS_ITEM_IDX ON COMMENTS (item_id);
+CREATE INDEX IF NOT EXISTS REQUESTS_CREATED_ID_IDX ON REQUESTS (created, id);
+CREATE INDEX IF NOT EXISTS REQUESTS_REQUESTOR_IDX ON REQUESTS (requestor_id);
+CREATE INDEX IF NOT EXISTS REQUEST_SUGGESTIONS_ITEM_IDX ON REQUEST_SUGGESTIONS (item_id);
@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ITEMS_NAME_TRGM_IDX ON ITEMS USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ITEMS_DESCRIPTION_TRGM_IDX ON ITEMS USING GIN (LOWER(description) gin_trgm_ops);
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@ActiveProfiles("test")
+class ItemServiceDBTest {
+
+    private static final long MAX_QUERIES = 3;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemDetailCache itemCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private Comment comment;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        booker = userRepository.save(new User(null, "booker", "booker@mail.ru"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+        lastBooking = bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        nextBooking = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker,
+                BookingStatus.APPROVED));
+        comment = commentRepository.save(new Comment(null, "Отличная дрель", item, booker, now));
+        itemCache.evict(item.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.delete(comment);
+        bookingRepository.deleteAll(List.of(lastBooking, nextBooking));
+        itemRepository.delete(item);
+        userRepository.deleteAll(List.of(owner, booker));
+        itemCache.evict(item.getId());
+    }
+
+    @Test
+    void getItemForOwnerLoadsDetailsInAtMostThreeQueries() {
+        statistics.clear();
+
+        ItemDto itemDto = itemService.getItem(owner.getId(), item.getId());
+
+        long queries = statistics.getPrepareStatementCount();
+        assertTrue(queries <= MAX_QUERIES, "getItem выполнил " + queries + " запросов");
+        assertEquals(item.getId(), itemDto.getId());
+        assertEquals(lastBooking.getId(), itemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), itemDto.getNextBooking().getId());
+        assertEquals(1, itemDto.getComments().size());
+
+        statistics.clear();
+
+        ItemDto otherUserItemDto = itemService.getItem(booker.getId(), item.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertNull(otherUserItemDto.getLastBooking());
+        assertNull(otherUserItemDto.getNextBooking());
+    }
+}